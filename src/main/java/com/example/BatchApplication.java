@@ -0,0 +1,262 @@
+package com.example;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maps a large newline-delimited JSON file with every core. The input is memory-mapped and split into
+ * line-aligned chunks; each worker binds its chunk to the source class and streams the mapped records
+ * through {@link ConfigurableModelMapper#jsonWriter}. If the output path is an existing directory every
+ * chunk is kept as its own {@code part-NNNNN.ndjson} file, otherwise the chunks are joined in input
+ * order into the output file.
+ */
+public class BatchApplication {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchApplication.class);
+
+    // A single MappedByteBuffer cannot exceed Integer.MAX_VALUE bytes.
+    private static final long MAX_CHUNK_BYTES = 1L << 30;
+    private static final int SCAN_BUFFER_SIZE = 8192;
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+    private static final long TERMINATION_TIMEOUT_SECONDS = 60;
+
+    private static final ObjectMapper objectMapper = new ObjectMapper()
+            .setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+
+    /**
+     * A byte range of the input that starts at a line start and ends just after a newline (or at EOF).
+     */
+    private static final class Chunk {
+        final int index;
+        final long start;
+        final long end;
+
+        Chunk(int index, long start, long end) {
+            this.index = index;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    public static void main(String[] args) {
+        int threads = args.length == 6 ? parseThreads(args[5]) : Runtime.getRuntime().availableProcessors();
+        if (args.length < 5 || args.length > 6 || threads < 1) {
+            System.err.println("Usage: java com.example.BatchApplication <config.json> <source-class> <target-class> <input.ndjson> <output-file-or-directory> [threads]");
+            System.err.println("  threads must be a positive integer");
+            System.exit(1);
+        }
+
+        try {
+            ConfigurableModelMapper mapper = new ConfigurableModelMapper(args[0]);
+            Class<?> sourceClass = Class.forName(args[1]);
+            Class<?> targetClass = Class.forName(args[2]);
+            Path input = Paths.get(args[3]);
+            Path output = Paths.get(args[4]);
+
+            long started = System.nanoTime();
+            long records = run(mapper, sourceClass, targetClass, input, output, threads);
+            long elapsedMillis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+
+            logger.info("Mapped {} records in {} ms ({} records/s) using {} threads",
+                    records, elapsedMillis, records * 1000 / elapsedMillis, threads);
+        } catch (ConfigurationException e) {
+            logger.error("Configuration Error: {}", e.getMessage(), e);
+            System.exit(1);
+        } catch (MappingException e) {
+            logger.error("Mapping Error: {}", e.getMessage(), e);
+            System.exit(1);
+        } catch (Exception e) {
+            logger.error("An unexpected error occurred in the BatchApplication main method", e);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Returns the parsed thread count, or {@code 0} if the argument is not a number.
+     */
+    private static int parseThreads(String value) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Maps every record of {@code input} and returns the number of records written. If any chunk fails,
+     * all part files (and the partial output file) are removed before the failure is rethrown.
+     */
+    static long run(ConfigurableModelMapper mapper, Class<?> sourceClass, Class<?> targetClass,
+                    Path input, Path output, int threads) throws MappingException, IOException, InterruptedException {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be positive: " + threads);
+        }
+        mapper.requireCompiledMapping(sourceClass, targetClass);
+
+        boolean perChunkFiles = Files.isDirectory(output);
+        List<Chunk> chunks;
+        try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+            chunks = split(channel, threads);
+        }
+
+        List<Path> parts = new ArrayList<>(chunks.size());
+        for (Chunk chunk : chunks) {
+            parts.add(perChunkFiles
+                    ? output.resolve(String.format("part-%05d.ndjson", chunk.index))
+                    : output.resolveSibling(output.getFileName() + ".part" + chunk.index));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long records = 0;
+        boolean concatenating = false;
+        boolean completed = false;
+        try {
+            List<Future<Long>> results = new ArrayList<>(chunks.size());
+            for (Chunk chunk : chunks) {
+                Path part = parts.get(chunk.index);
+                results.add(executor.submit(() -> mapChunk(mapper, sourceClass, targetClass, input, chunk, part)));
+            }
+            for (Future<Long> result : results) {
+                records += result.get();
+            }
+            if (!perChunkFiles) {
+                concatenating = true;
+                concatenate(parts, output);
+            }
+            completed = true;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof MappingException) {
+                throw (MappingException) cause;
+            }
+            throw new MappingException("Failed to map " + input + ": " + cause.getMessage(), cause);
+        } finally {
+            executor.shutdownNow();
+            if (!completed) {
+                // Let interrupted workers stop writing before their part files are removed.
+                executor.awaitTermination(TERMINATION_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                deleteQuietly(parts);
+                if (concatenating) {
+                    deleteQuietly(Collections.singletonList(output));
+                }
+            }
+        }
+        return records;
+    }
+
+    private static void deleteQuietly(List<Path> paths) {
+        for (Path path : paths) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                logger.warn("Failed to delete {} after a failed batch run", path, e);
+            }
+        }
+    }
+
+    /**
+     * Cuts the file into at least {@code count} chunks of roughly equal size, moving every cut forward
+     * to just past the next newline so no record is split across chunks.
+     */
+    private static List<Chunk> split(FileChannel channel, int count) throws IOException {
+        long size = channel.size();
+        long chunkCount = Math.max(count, (size + MAX_CHUNK_BYTES - 1) / MAX_CHUNK_BYTES);
+        List<Chunk> chunks = new ArrayList<>();
+        ByteBuffer scan = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+
+        long start = 0;
+        for (long i = 1; i <= chunkCount && start < size; i++) {
+            long end = i == chunkCount ? size : nextLineStart(channel, Math.max(start, size * i / chunkCount), scan);
+            if (end > start) {
+                if (end - start > Integer.MAX_VALUE) {
+                    throw new IOException("Line-aligned chunk at offset " + start + " exceeds the maximum mappable size");
+                }
+                chunks.add(new Chunk(chunks.size(), start, end));
+                start = end;
+            }
+        }
+        return chunks;
+    }
+
+    private static long nextLineStart(FileChannel channel, long position, ByteBuffer scan) throws IOException {
+        long size = channel.size();
+        while (position < size) {
+            // Cast so the call links against Buffer.clear(); ByteBuffer.clear() only exists from Java 9.
+            ((Buffer) scan).clear();
+            int read = channel.read(scan, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (scan.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private static long mapChunk(ConfigurableModelMapper mapper, Class<?> sourceClass, Class<?> targetClass,
+                                 Path input, Chunk chunk, Path part) throws IOException, MappingException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, chunk.start, chunk.end - chunk.start);
+        }
+
+        ObjectReader reader = objectMapper.readerFor(sourceClass);
+        long records = 0;
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(part), OUTPUT_BUFFER_SIZE);
+             RecordWriter writer = mapper.jsonWriter(sourceClass, targetClass, out);
+             MappingIterator<Object> values = reader.readValues(new ByteBufferBackedInputStream(buffer))) {
+            while (values.hasNextValue()) {
+                writer.write(values.nextValue());
+                records++;
+            }
+        }
+        logger.debug("Chunk {} ({} bytes) mapped {} records", chunk.index, chunk.end - chunk.start, records);
+        return records;
+    }
+
+    private static void concatenate(List<Path> parts, Path output) throws IOException {
+        try (FileChannel target = FileChannel.open(output, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (Path part : parts) {
+                try (FileChannel source = FileChannel.open(part, StandardOpenOption.READ)) {
+                    long position = 0;
+                    long size = source.size();
+                    while (position < size) {
+                        position += source.transferTo(position, size - position, target);
+                    }
+                }
+                Files.delete(part);
+            }
+        }
+    }
+}
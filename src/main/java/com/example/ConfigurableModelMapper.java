@@ -14,7 +14,16 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -25,6 +34,68 @@ public class ConfigurableModelMapper {
     private final Map<Class<?>, Map<String, Field>> fieldCache = new ConcurrentHashMap<>();
     private List<String> mappablePackages = new ArrayList<>();
 
+    /**
+     * Target classes of all configured mappings; container elements of these types are mapped one by one.
+     */
+    private final Set<Class<?>> configuredTargetClasses = new HashSet<>();
+
+    private static final CompiledMapping[] NO_MAPPINGS = new CompiledMapping[0];
+
+    /**
+     * List fields with at least this many elements are mapped through {@link #mapElementsInto}.
+     */
+    private static final int BULK_MAPPING_THRESHOLD = 64;
+
+    private static final int DEFAULT_CANONICAL_CACHE_SIZE = 4096;
+
+    /** Container types whose {@code (int)} constructor takes the expected number of elements. */
+    private static final Set<Class<?>> SIZE_HINT_TYPES = new HashSet<>(Arrays.<Class<?>>asList(
+            ArrayList.class, Vector.class, ArrayDeque.class, IdentityHashMap.class));
+
+    /** Container types whose {@code (int)} constructor takes a hash table capacity. */
+    private static final Set<Class<?>> HASH_CAPACITY_TYPES = new HashSet<>(Arrays.<Class<?>>asList(
+            HashSet.class, LinkedHashSet.class, HashMap.class, LinkedHashMap.class, Hashtable.class,
+            WeakHashMap.class, ConcurrentHashMap.class));
+
+    /**
+     * Configured mappings grouped by source class. Only written while the configuration is loaded
+     * in the constructor; read-only afterwards.
+     */
+    private final Map<Class<?>, List<CompiledMapping>> compiledMappings = new HashMap<>();
+
+    /**
+     * Lock-free dispatch table: per source class, the compiled mappings for every configured target
+     * class. Pairs that are not configured resolve to an empty array and fall back to ModelMapper.
+     */
+    private final ClassValue<CompiledMapping[]> dispatchTable = new ClassValue<CompiledMapping[]>() {
+        @Override
+        protected CompiledMapping[] computeValue(Class<?> type) {
+            List<CompiledMapping> mappings = compiledMappings.get(type);
+            return mappings == null ? NO_MAPPINGS : mappings.toArray(new CompiledMapping[0]);
+        }
+    };
+
+    /**
+     * Whether instances of a class belong to one of the {@code mappablePackages}, decided once per class
+     * so the per-value check on the hot path does not allocate.
+     */
+    private final ClassValue<Boolean> mappableClasses = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            Package pkg = type.getPackage();
+            if (pkg == null) {
+                return Boolean.FALSE;
+            }
+            String packageName = pkg.getName();
+            for (String mappablePackage : mappablePackages) {
+                if (packageName.startsWith(mappablePackage)) {
+                    return Boolean.TRUE;
+                }
+            }
+            return Boolean.FALSE;
+        }
+    };
+
     public ConfigurableModelMapper(String configPath) throws ConfigurationException {
         this.modelMapper = new ModelMapper();
 
@@ -63,9 +134,24 @@ public class ConfigurableModelMapper {
                 }
             }
 
+            JsonNode cacheSizeNode = rootNode.get("canonicalCacheSize");
+            int canonicalCacheSize = DEFAULT_CANONICAL_CACHE_SIZE;
+            if (cacheSizeNode != null) {
+                if (!cacheSizeNode.isIntegralNumber() || cacheSizeNode.bigIntegerValue().signum() <= 0) {
+                    throw new ConfigurationException("canonicalCacheSize must be a positive integer, got: " + cacheSizeNode);
+                }
+                canonicalCacheSize = cacheSizeNode.canConvertToInt() ? cacheSizeNode.intValue() : ValueCanonicalizer.MAX_CAPACITY;
+            }
+            ValueCanonicalizer canonicalizer = null;
+
             JsonNode mappingsNode = rootNode.get("mappings");
 
             if (mappingsNode != null && mappingsNode.isArray()) {
+                // Known up front, so container fields can tell which element types any mapping produces.
+                for (JsonNode node : mappingsNode) {
+                    configuredTargetClasses.add(Class.forName(node.get("targetClass").asText()));
+                }
+
                 for (JsonNode node : mappingsNode) {
                     String sourceClassName = node.get("sourceClass").asText();
                     String targetClassName = node.get("targetClass").asText();
@@ -75,7 +161,7 @@ public class ConfigurableModelMapper {
 
                     TypeMap<Object, Object> typeMap = (TypeMap<Object, Object>) modelMapper.createTypeMap(sourceClass, targetClass);
 
-                    Map<String, String> fieldMappings = new HashMap<>();
+                    Map<String, String> fieldMappings = new LinkedHashMap<>();
                     JsonNode fields = node.get("fields");
                     Iterator<String> fieldNames = fields.fieldNames();
 
@@ -87,25 +173,31 @@ public class ConfigurableModelMapper {
                         fieldMappings.put(sourceFieldName, targetFieldName);
                     }
 
+                    Set<String> canonicalFields = new HashSet<>();
+                    JsonNode canonicalNode = node.get("canonicalFields");
+                    if (canonicalNode != null && canonicalNode.isArray()) {
+                        for (JsonNode fieldNode : canonicalNode) {
+                            String targetFieldName = fieldNode.asText();
+                            if (!fieldMappings.containsValue(targetFieldName)) {
+                                throw new ConfigurationException("Canonical field '" + targetFieldName + "' is not a mapped target field of " + targetClassName);
+                            }
+                            canonicalFields.add(targetFieldName);
+                        }
+                    }
+                    if (!canonicalFields.isEmpty() && canonicalizer == null) {
+                        canonicalizer = new ValueCanonicalizer(canonicalCacheSize);
+                    }
+
+                    CompiledMapping compiled = compileMapping(sourceClass, targetClass, fieldMappings, canonicalFields, canonicalizer);
+                    compiledMappings.computeIfAbsent(sourceClass, k -> new ArrayList<>()).add(compiled);
+
+                    // Still registered with ModelMapper so that configured types nested inside
+                    // unconfigured (fallback) pairs are converted the same way.
                     Converter<Object, Object> converter = new AbstractConverter<Object, Object>() {
                         @Override
                         protected Object convert(Object source) {
                             try {
-                                Object destination = targetClass.getDeclaredConstructor().newInstance();
-                                for (Map.Entry<String, String> entry : fieldMappings.entrySet()) {
-                                    String sourceField = entry.getKey();
-                                    String targetField = entry.getValue();
-
-                                    Object value = getReflectionValue(source, sourceField);
-
-                                    if (isCustomObject(value)) {
-                                        Object nestedTarget = map(value, findField(destination.getClass(), targetField).getType());
-                                        setReflectionValue(destination, targetField, nestedTarget);
-                                    } else {
-                                        setReflectionValue(destination, targetField, value);
-                                    }
-                                }
-                                return destination;
+                                return compiled.convert(ConfigurableModelMapper.this, source);
                             } catch (Exception e) {
                                 throw new RuntimeException(new MappingException("Failed to convert object from " + source.getClass().getName() + " to " + targetClass.getName(), e));
                             }
@@ -128,29 +220,285 @@ public class ConfigurableModelMapper {
         }
     }
 
-    private boolean isCustomObject(Object obj) {
-        if (obj == null) {
-            return false;
+    boolean isCustomObject(Object obj) {
+        return obj != null && mappableClasses.get(obj.getClass());
+    }
+
+    private CompiledMapping compileMapping(Class<?> sourceClass, Class<?> targetClass, Map<String, String> fieldMappings,
+                                           Set<String> canonicalFields, ValueCanonicalizer canonicalizer)
+            throws MappingException, NoSuchMethodException {
+        Constructor<?> constructor = targetClass.getDeclaredConstructor();
+        constructor.setAccessible(true);
+
+        FieldMapping[] fields = new FieldMapping[fieldMappings.size()];
+        int i = 0;
+        for (Map.Entry<String, String> entry : fieldMappings.entrySet()) {
+            Field sourceField = findField(sourceClass, entry.getKey());
+            sourceField.setAccessible(true);
+            Field targetField = findField(targetClass, entry.getValue());
+            targetField.setAccessible(true);
+            ValueCanonicalizer fieldCanonicalizer = null;
+            if (canonicalFields.contains(targetField.getName())) {
+                if (!isImmutableValueType(targetField.getType())) {
+                    throw new ConfigurationException("Canonical field '" + targetField.getName() + "' must hold an immutable value type, not " + targetField.getType().getName());
+                }
+                fieldCanonicalizer = canonicalizer;
+            }
+            fields[i++] = compileField(sourceField, targetField, fieldCanonicalizer);
         }
-        String packageName = obj.getClass().getPackage().getName();
-        return mappablePackages.stream().anyMatch(packageName::startsWith);
+        return new CompiledMapping(sourceClass, targetClass, constructor, fields);
     }
 
-    private Object getReflectionValue(Object source, String fieldName) throws FieldNotFoundException, IllegalAccessException {
-        Field field = findField(source.getClass(), fieldName);
-        field.setAccessible(true);
-        return field.get(source);
+    /**
+     * Decides how a target field is filled. Collection, array and map fields whose element (or key) type
+     * is produced by a configured mapping are mapped element by element, with the element types taken from
+     * the target field's generic signature; all other values are copied by reference.
+     */
+    private FieldMapping compileField(Field sourceField, Field targetField, ValueCanonicalizer canonicalizer) throws ConfigurationException {
+        Class<?> type = targetField.getType();
+        if (type.isArray()) {
+            Class<?> componentType = type.getComponentType();
+            if (isConfiguredTarget(componentType)) {
+                return new FieldMapping(sourceField, targetField, ValueKind.ARRAY, null, componentType, null, null);
+            }
+        } else if (Collection.class.isAssignableFrom(type)) {
+            Class<?> elementType = typeArgument(targetField, 0);
+            if (isConfiguredTarget(elementType)) {
+                return new FieldMapping(sourceField, targetField, ValueKind.COLLECTION,
+                        null, elementType, requireFactory(type, collectionFactory(type)), null);
+            }
+        } else if (Map.class.isAssignableFrom(type)) {
+            Class<?> keyType = typeArgument(targetField, 0);
+            Class<?> valueType = typeArgument(targetField, 1);
+            if (isConfiguredTarget(keyType) || isConfiguredTarget(valueType)) {
+                return new FieldMapping(sourceField, targetField, ValueKind.MAP,
+                        keyType, valueType, requireFactory(type, mapFactory(type)), null);
+            }
+        }
+        return new FieldMapping(sourceField, targetField, ValueKind.PLAIN, null, type, null, canonicalizer);
     }
 
-    private void setReflectionValue(Object dest, String fieldName, Object value) throws FieldNotFoundException, IllegalAccessException {
-        Field field = findField(dest.getClass(), fieldName);
-        field.setAccessible(true);
+    private boolean isConfiguredTarget(Class<?> type) {
+        return type != null && configuredTargetClasses.contains(type);
+    }
 
-        if (field.getType().isEnum() && value instanceof String) {
-            value = Enum.valueOf((Class<Enum>) field.getType(), (String) value);
+    private static ContainerFactory requireFactory(Class<?> containerType, ContainerFactory factory) throws ConfigurationException {
+        if (factory == null) {
+            throw new ConfigurationException("Unsupported container type for mapped elements: " + containerType.getName());
         }
+        return factory;
+    }
 
-        field.set(dest, value);
+    /**
+     * Only values that can never change are safe to share between mapped objects.
+     */
+    private static boolean isImmutableValueType(Class<?> type) {
+        return type == String.class || type == Boolean.class || type == Character.class
+                || type == Byte.class || type == Short.class || type == Integer.class || type == Long.class
+                || type == Float.class || type == Double.class
+                || type == BigInteger.class || type == BigDecimal.class
+                || (type.getPackage() != null && type.getPackage().getName().equals("java.time"));
+    }
+
+    /**
+     * Returns the raw class of the given type argument of a field's generic type, or {@code null}
+     * when it cannot be resolved (raw types, type variables) or is {@code Object}; such containers are
+     * copied by reference.
+     */
+    private static Class<?> typeArgument(Field field, int index) {
+        Type genericType = field.getGenericType();
+        if (!(genericType instanceof ParameterizedType)) {
+            return null;
+        }
+        Type[] arguments = ((ParameterizedType) genericType).getActualTypeArguments();
+        if (index >= arguments.length) {
+            return null;
+        }
+        Type argument = arguments[index];
+        if (argument instanceof WildcardType) {
+            argument = ((WildcardType) argument).getUpperBounds()[0];
+        }
+        if (argument instanceof ParameterizedType) {
+            argument = ((ParameterizedType) argument).getRawType();
+        }
+        return argument instanceof Class && argument != Object.class ? (Class<?>) argument : null;
+    }
+
+    /**
+     * Returns a factory for the collection type, or {@code null} if it cannot be allocated. Defaults
+     * accept {@code null} elements; sorted targets keep the comparator of a sorted source.
+     */
+    @SuppressWarnings("unchecked")
+    private static ContainerFactory collectionFactory(Class<?> type) {
+        if (type.isAssignableFrom(ArrayList.class)) {
+            return (source, size) -> new ArrayList<>(size);
+        }
+        if (type.isAssignableFrom(LinkedHashSet.class)) {
+            return (source, size) -> new LinkedHashSet<>(hashCapacity(size));
+        }
+        if (type.isAssignableFrom(TreeSet.class)) {
+            return (source, size) -> new TreeSet<>(source instanceof SortedSet ? ((SortedSet<Object>) source).comparator() : null);
+        }
+        if (type.isAssignableFrom(LinkedList.class)) {
+            return (source, size) -> new LinkedList<>();
+        }
+        return concreteFactory(type);
+    }
+
+    /**
+     * Returns a factory for the map type, or {@code null} if it cannot be allocated. Sorted targets keep
+     * the comparator of a sorted source.
+     */
+    @SuppressWarnings("unchecked")
+    private static ContainerFactory mapFactory(Class<?> type) {
+        if (type.isAssignableFrom(LinkedHashMap.class)) {
+            return (source, size) -> new LinkedHashMap<>(hashCapacity(size));
+        }
+        if (type.isAssignableFrom(TreeMap.class)) {
+            return (source, size) -> new TreeMap<>(source instanceof SortedMap ? ((SortedMap<Object, Object>) source).comparator() : null);
+        }
+        if (type.isAssignableFrom(ConcurrentHashMap.class)) {
+            return (source, size) -> new ConcurrentHashMap<>(hashCapacity(size));
+        }
+        return concreteFactory(type);
+    }
+
+    /**
+     * Falls back to the container type's own public no-arg constructor; {@code null} for interfaces,
+     * abstract types and types without one. The {@code (int)} constructor is only used for JDK types
+     * where it is known to be a capacity hint, since elsewhere it can mean anything.
+     */
+    private static ContainerFactory concreteFactory(Class<?> type) {
+        if (type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+            return null;
+        }
+        try {
+            if (SIZE_HINT_TYPES.contains(type)) {
+                Constructor<?> sized = type.getConstructor(int.class);
+                return (source, size) -> sized.newInstance(size);
+            }
+            if (HASH_CAPACITY_TYPES.contains(type)) {
+                Constructor<?> sized = type.getConstructor(int.class);
+                return (source, size) -> sized.newInstance(hashCapacity(size));
+            }
+            Constructor<?> empty = type.getConstructor();
+            return (source, size) -> empty.newInstance();
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static int hashCapacity(int size) {
+        return (int) (size / 0.75f) + 1;
+    }
+
+    CompiledMapping findCompiledMapping(Class<?> sourceClass, Class<?> targetClass) {
+        for (CompiledMapping mapping : dispatchTable.get(sourceClass)) {
+            if (mapping.targetClass == targetClass) {
+                return mapping;
+            }
+        }
+        return null;
+    }
+
+    private Object convertValue(Object value, Class<?> targetType) throws MappingException {
+        if (targetType == null) {
+            return value;
+        }
+        if (isCustomObject(value)) {
+            return map(value, targetType);
+        }
+        return convertEnum(value, targetType);
+    }
+
+    /**
+     * Converts a {@code String} going into an enum-typed target to the enum constant, rejecting unknown
+     * names; any other value is returned unchanged. Shared with the record writers so all outputs agree.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static Object convertEnum(Object value, Class<?> targetType) {
+        if (targetType != null && targetType.isEnum() && value instanceof String) {
+            return Enum.valueOf((Class<Enum>) targetType, (String) value);
+        }
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object convertCollection(Object value, FieldMapping field) throws Exception {
+        Collection<Object> elements = asCollection(value);
+        if (elements == null) {
+            return value;
+        }
+        int size = elements.size();
+        Collection<Object> container = (Collection<Object>) field.containerFactory.create(value, size);
+        if (size >= BULK_MAPPING_THRESHOLD && field.listTarget && field.elementType != null) {
+            mapElementsInto(elements, field.elementType, container);
+            return container;
+        }
+        for (Object element : elements) {
+            container.add(convertValue(element, field.elementType));
+        }
+        return container;
+    }
+
+    /**
+     * Bulk form of {@link #convertValue} over a collection: same result per element, but the compiled
+     * mapping is resolved once per run of same-class elements instead of once per element.
+     */
+    private void mapElementsInto(Collection<Object> elements, Class<?> elementType, Collection<Object> container) throws MappingException {
+        Class<?> runClass = null;
+        CompiledMapping compiled = null;
+        for (Object element : elements) {
+            if (!isCustomObject(element)) {
+                container.add(convertValue(element, elementType));
+                continue;
+            }
+            if (element.getClass() != runClass) {
+                runClass = element.getClass();
+                compiled = findCompiledMapping(runClass, elementType);
+            }
+            container.add(compiled != null ? convertCompiled(compiled, element, elementType) : map(element, elementType));
+        }
+    }
+
+    private Object convertArray(Object value, FieldMapping field) throws Exception {
+        Collection<Object> elements = asCollection(value);
+        if (elements == null) {
+            return value;
+        }
+        Object[] array = (Object[]) Array.newInstance(field.elementType, elements.size());
+        int i = 0;
+        for (Object element : elements) {
+            array[i++] = convertValue(element, field.elementType);
+        }
+        return array;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object convertMap(Object value, FieldMapping field) throws Exception {
+        if (!(value instanceof Map)) {
+            return value;
+        }
+        Map<?, ?> entries = (Map<?, ?>) value;
+        Map<Object, Object> container = (Map<Object, Object>) field.containerFactory.create(value, entries.size());
+        for (Map.Entry<?, ?> entry : entries.entrySet()) {
+            container.put(convertValue(entry.getKey(), field.keyType), convertValue(entry.getValue(), field.elementType));
+        }
+        return container;
+    }
+
+    /**
+     * Views a collection or object array as a collection without copying; {@code null} for anything else.
+     */
+    @SuppressWarnings("unchecked")
+    static Collection<Object> asCollection(Object value) {
+        if (value instanceof Collection) {
+            return (Collection<Object>) value;
+        }
+        if (value instanceof Object[]) {
+            return Arrays.asList((Object[]) value);
+        }
+        return null;
     }
 
     private Field findField(Class<?> clazz, String fieldName) throws FieldNotFoundException {
@@ -179,6 +527,10 @@ public class ConfigurableModelMapper {
     }
 
     public <S, T> T map(S source, Class<T> targetClass) throws MappingException {
+        CompiledMapping compiled = findCompiledMapping(source.getClass(), targetClass);
+        if (compiled != null) {
+            return convertCompiled(compiled, source, targetClass);
+        }
         try {
             return modelMapper.map(source, targetClass);
         } catch (Exception e) {
@@ -186,14 +538,152 @@ public class ConfigurableModelMapper {
         }
     }
 
+    /**
+     * Maps every element of the collection. The compiled mapping is resolved once per run of
+     * same-class elements rather than per element; {@code null} elements stay {@code null}.
+     */
     public <S, T> List<T> map(Collection<S> source, Class<T> targetClass) throws MappingException {
         if (source == null) {
             return Collections.emptyList();
         }
-        List<T> results = new ArrayList<>();
+        List<T> results = new ArrayList<>(source.size());
+        Class<?> runClass = null;
+        CompiledMapping compiled = null;
         for (S element : source) {
-            results.add(map(element, targetClass));
+            if (element == null) {
+                results.add(null);
+                continue;
+            }
+            if (element.getClass() != runClass) {
+                runClass = element.getClass();
+                compiled = findCompiledMapping(runClass, targetClass);
+            }
+            results.add(compiled != null ? convertCompiled(compiled, element, targetClass) : map(element, targetClass));
         }
         return results;
     }
+
+    /**
+     * Opens a writer that streams the {@code targetClass} view of each source record to {@code out} as
+     * one JSON object per line, without instantiating the target class. Records must be instances of
+     * {@code sourceClass} and are written with its mapping. Closing the writer closes the stream.
+     */
+    public RecordWriter jsonWriter(Class<?> sourceClass, Class<?> targetClass, OutputStream out) throws MappingException {
+        try {
+            return new JsonRecordWriter(this, requireCompiledMapping(sourceClass, targetClass), out);
+        } catch (IOException e) {
+            throw new MappingException("Failed to open JSON writer for " + targetClass.getName(), e);
+        }
+    }
+
+    /**
+     * Opens a writer that streams the {@code targetClass} view of each source record to {@code out} as CSV,
+     * without instantiating the target class. Nested configured objects are flattened into
+     * {@code field.nestedField} columns. Records must be instances of {@code sourceClass} and are written
+     * with its mapping. Closing the writer closes the stream.
+     */
+    public RecordWriter csvWriter(Class<?> sourceClass, Class<?> targetClass, OutputStream out) throws MappingException {
+        try {
+            return new CsvRecordWriter(this, requireCompiledMapping(sourceClass, targetClass), out);
+        } catch (IOException e) {
+            throw new MappingException("Failed to open CSV writer for " + targetClass.getName(), e);
+        }
+    }
+
+    CompiledMapping requireCompiledMapping(Class<?> sourceClass, Class<?> targetClass) throws MappingException {
+        CompiledMapping compiled = findCompiledMapping(sourceClass, targetClass);
+        if (compiled == null) {
+            throw new MappingException("No mapping configured from " + sourceClass.getName() + " to " + targetClass.getName());
+        }
+        return compiled;
+    }
+
+    private <T> T convertCompiled(CompiledMapping compiled, Object source, Class<T> targetClass) throws MappingException {
+        try {
+            return targetClass.cast(compiled.convert(this, source));
+        } catch (Exception e) {
+            throw new MappingException("Failed to map object from " + source.getClass().getName() + " to " + targetClass.getName(), e);
+        }
+    }
+
+    /**
+     * A configured source/target pair with its constructor and field pairs resolved up front.
+     * Static, so dispatch table entries never keep a mapper instance reachable from a class.
+     */
+    static final class CompiledMapping {
+        final Class<?> sourceClass;
+        final Class<?> targetClass;
+        final Constructor<?> constructor;
+        final FieldMapping[] fields;
+
+        CompiledMapping(Class<?> sourceClass, Class<?> targetClass, Constructor<?> constructor, FieldMapping[] fields) {
+            this.sourceClass = sourceClass;
+            this.targetClass = targetClass;
+            this.constructor = constructor;
+            this.fields = fields;
+        }
+
+        Object convert(ConfigurableModelMapper owner, Object source) throws Exception {
+            Object destination = constructor.newInstance();
+            for (FieldMapping field : fields) {
+                Object value = field.source.get(source);
+                switch (field.kind) {
+                    case COLLECTION:
+                        value = owner.convertCollection(value, field);
+                        break;
+                    case ARRAY:
+                        value = owner.convertArray(value, field);
+                        break;
+                    case MAP:
+                        value = owner.convertMap(value, field);
+                        break;
+                    default:
+                        value = owner.convertValue(value, field.elementType);
+                        if (field.canonicalizer != null) {
+                            value = field.canonicalizer.canonicalize(value);
+                        }
+                }
+                field.target.set(destination, value);
+            }
+            return destination;
+        }
+    }
+
+    enum ValueKind { PLAIN, COLLECTION, ARRAY, MAP }
+
+    /**
+     * One source/target field pair. For plain fields {@code elementType} is the target field type;
+     * for containers it is the element (or map value) type, {@code null} if unknown. {@code canonicalizer}
+     * is only set for plain fields listed under {@code canonicalFields} in the configuration.
+     */
+    static final class FieldMapping {
+        final Field source;
+        final Field target;
+        final ValueKind kind;
+        final Class<?> keyType;
+        final Class<?> elementType;
+        final ContainerFactory containerFactory;
+        final boolean listTarget;
+        final ValueCanonicalizer canonicalizer;
+
+        FieldMapping(Field source, Field target, ValueKind kind, Class<?> keyType, Class<?> elementType,
+                     ContainerFactory containerFactory, ValueCanonicalizer canonicalizer) {
+            this.source = source;
+            this.target = target;
+            this.kind = kind;
+            this.keyType = keyType;
+            this.elementType = elementType;
+            this.containerFactory = containerFactory;
+            this.listTarget = target.getType().isAssignableFrom(ArrayList.class);
+            this.canonicalizer = canonicalizer;
+        }
+    }
+
+    /**
+     * Creates an empty target container for the given source container and its number of elements.
+     */
+    @FunctionalInterface
+    interface ContainerFactory {
+        Object create(Object source, int size) throws Exception;
+    }
 }
@@ -0,0 +1,191 @@
+package com.example;
+
+import com.example.ConfigurableModelMapper.CompiledMapping;
+import com.example.ConfigurableModelMapper.FieldMapping;
+import com.example.ConfigurableModelMapper.ValueKind;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the target view of each record as a CSV row, reading values straight from the source object.
+ * Plain fields whose declared types form a configured pair are flattened into {@code field.nested}
+ * columns; collection, array and map fields are written as a JSON cell. The header row is written
+ * when the writer is opened. Each row is built in a buffer first, so a record that fails to convert
+ * leaves nothing behind in the output.
+ */
+final class CsvRecordWriter implements RecordWriter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ConfigurableModelMapper mapper;
+    private final CompiledMapping root;
+    private final Column[] columns;
+    private final Writer out;
+    private final StringBuilder row = new StringBuilder();
+    private final StringWriter cellBuffer = new StringWriter();
+    private JsonGenerator cellGenerator;
+    private JsonValueRenderer cellRenderer;
+
+    CsvRecordWriter(ConfigurableModelMapper mapper, CompiledMapping root, OutputStream out) throws IOException {
+        this.mapper = mapper;
+        this.root = root;
+        this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        openCellGenerator();
+
+        List<String> headers = new ArrayList<>();
+        List<CompiledMapping> path = new ArrayList<>();
+        this.columns = layout(root, "", headers, path);
+        for (int i = 0; i < headers.size(); i++) {
+            if (i > 0) {
+                row.append(',');
+            }
+            appendCell(headers.get(i));
+        }
+        row.append('\n');
+        this.out.append(row);
+    }
+
+    /**
+     * (Re)creates the generator used for JSON cells; a generator left mid-value by a failure is discarded.
+     */
+    private void openCellGenerator() throws IOException {
+        cellGenerator = JsonValueRenderer.CODEC.getFactory().createGenerator(cellBuffer);
+        cellGenerator.setRootValueSeparator(null);
+        cellRenderer = new JsonValueRenderer(mapper, cellGenerator);
+    }
+
+    /**
+     * A target column, or a group of columns for a flattened nested mapping.
+     */
+    private static final class Column {
+        final FieldMapping field;
+        final Column[] children;
+
+        Column(FieldMapping field, Column[] children) {
+            this.field = field;
+            this.children = children;
+        }
+    }
+
+    private Column[] layout(CompiledMapping compiled, String prefix, List<String> headers, List<CompiledMapping> path) {
+        path.add(compiled);
+        Column[] result = new Column[compiled.fields.length];
+        for (int i = 0; i < compiled.fields.length; i++) {
+            FieldMapping field = compiled.fields[i];
+            String name = prefix + field.target.getName();
+            CompiledMapping nested = field.kind == ValueKind.PLAIN
+                    ? mapper.findCompiledMapping(field.source.getType(), field.target.getType())
+                    : null;
+            // Self-referencing mappings cannot be flattened; they fall back to a JSON cell.
+            if (nested != null && !path.contains(nested)) {
+                result[i] = new Column(field, layout(nested, name + ".", headers, path));
+            } else {
+                headers.add(name);
+                result[i] = new Column(field, null);
+            }
+        }
+        path.remove(path.size() - 1);
+        return result;
+    }
+
+    @Override
+    public void write(Object source) throws MappingException {
+        if (!root.sourceClass.isInstance(source)) {
+            throw new MappingException("CSV writer for " + root.sourceClass.getName() + " cannot write " + source.getClass().getName());
+        }
+        row.setLength(0);
+        try {
+            appendColumns(source, columns, true);
+            row.append('\n');
+        } catch (Exception e) {
+            try {
+                openCellGenerator();
+            } catch (IOException ex) {
+                e.addSuppressed(ex);
+            }
+            throw new MappingException("Failed to write " + source.getClass().getName() + " as CSV", e);
+        }
+        try {
+            out.append(row);
+        } catch (IOException e) {
+            throw new MappingException("Failed to write " + source.getClass().getName() + " as CSV", e);
+        }
+    }
+
+    private boolean appendColumns(Object source, Column[] group, boolean first) throws Exception {
+        for (Column column : group) {
+            Object value = source == null ? null : column.field.source.get(source);
+            if (column.children != null) {
+                first = appendColumns(value, column.children, first);
+                continue;
+            }
+            if (!first) {
+                row.append(',');
+            }
+            first = false;
+            if (value != null) {
+                appendCell(cellText(value, column.field));
+            }
+        }
+        return first;
+    }
+
+    private String cellText(Object value, FieldMapping field) throws Exception {
+        if (field.kind == ValueKind.PLAIN && !mapper.isCustomObject(value) && !isContainer(value)) {
+            value = ConfigurableModelMapper.convertEnum(value, field.elementType);
+            return value instanceof Enum ? ((Enum<?>) value).name() : String.valueOf(value);
+        }
+        cellBuffer.getBuffer().setLength(0);
+        cellRenderer.writeValue(value, field);
+        cellGenerator.flush();
+        return cellBuffer.toString();
+    }
+
+    /**
+     * Containers copied by reference are plain fields too, but still get a JSON cell.
+     */
+    private static boolean isContainer(Object value) {
+        return value instanceof Collection || value instanceof Map || value.getClass().isArray();
+    }
+
+    private void appendCell(String text) {
+        boolean quote = false;
+        for (int i = 0; i < text.length() && !quote; i++) {
+            char c = text.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            row.append(text);
+            return;
+        }
+        row.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                row.append('"');
+            }
+            row.append(c);
+        }
+        row.append('"');
+    }
+
+    @Override
+    public void close() throws MappingException {
+        try {
+            out.close();
+        } catch (IOException e) {
+            throw new MappingException("Failed to close CSV writer", e);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example;
+
+import com.example.ConfigurableModelMapper.CompiledMapping;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes the target view of each record as a JSON object per line (NDJSON), rendered by
+ * {@link JsonValueRenderer} without instantiating the target class. Each record is rendered into a
+ * buffer first and only copied to the stream once complete, so a record that fails to convert leaves
+ * nothing behind in the output.
+ */
+final class JsonRecordWriter implements RecordWriter {
+
+    private final ConfigurableModelMapper mapper;
+    private final CompiledMapping root;
+    private final OutputStream out;
+    private final ByteArrayOutputStream record = new ByteArrayOutputStream();
+    private JsonGenerator generator;
+    private JsonValueRenderer renderer;
+
+    JsonRecordWriter(ConfigurableModelMapper mapper, CompiledMapping root, OutputStream out) throws IOException {
+        this.mapper = mapper;
+        this.root = root;
+        this.out = out;
+        openGenerator();
+    }
+
+    /**
+     * (Re)creates the record generator; a generator left mid-object by a failure is discarded.
+     */
+    private void openGenerator() throws IOException {
+        generator = JsonValueRenderer.CODEC.getFactory().createGenerator(record, JsonEncoding.UTF8);
+        generator.setRootValueSeparator(null);
+        renderer = new JsonValueRenderer(mapper, generator);
+    }
+
+    @Override
+    public void write(Object source) throws MappingException {
+        if (!root.sourceClass.isInstance(source)) {
+            throw new MappingException("JSON writer for " + root.sourceClass.getName() + " cannot write " + source.getClass().getName());
+        }
+        record.reset();
+        try {
+            renderer.writeObject(source, root);
+            generator.writeRaw('\n');
+            generator.flush();
+        } catch (Exception e) {
+            try {
+                openGenerator();
+            } catch (IOException ex) {
+                e.addSuppressed(ex);
+            }
+            if (e instanceof MappingException) {
+                throw (MappingException) e;
+            }
+            throw new MappingException("Failed to write " + source.getClass().getName() + " as " + root.targetClass.getName(), e);
+        }
+        try {
+            record.writeTo(out);
+        } catch (IOException e) {
+            throw new MappingException("Failed to write " + source.getClass().getName() + " as " + root.targetClass.getName(), e);
+        }
+    }
+
+    @Override
+    public void close() throws MappingException {
+        try {
+            out.close();
+        } catch (IOException e) {
+            throw new MappingException("Failed to close JSON writer", e);
+        }
+    }
+}
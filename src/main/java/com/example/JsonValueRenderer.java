@@ -0,0 +1,98 @@
+package com.example;
+
+import com.example.ConfigurableModelMapper.CompiledMapping;
+import com.example.ConfigurableModelMapper.FieldMapping;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Renders the target view of source values onto a {@link JsonGenerator}. Field names are the configured
+ * target field names and values are read from the source object, so configured target classes are never
+ * instantiated; only nested pairs that are not configured go through {@link ConfigurableModelMapper#map(Object, Class)}.
+ */
+final class JsonValueRenderer {
+
+    static final ObjectMapper CODEC = new ObjectMapper();
+
+    private final ConfigurableModelMapper mapper;
+    private final JsonGenerator generator;
+
+    JsonValueRenderer(ConfigurableModelMapper mapper, JsonGenerator generator) {
+        this.mapper = mapper;
+        this.generator = generator;
+    }
+
+    void writeObject(Object source, CompiledMapping compiled) throws Exception {
+        generator.writeStartObject();
+        for (FieldMapping field : compiled.fields) {
+            generator.writeFieldName(field.target.getName());
+            writeValue(field.source.get(source), field);
+        }
+        generator.writeEndObject();
+    }
+
+    void writeValue(Object value, FieldMapping field) throws Exception {
+        if (value == null) {
+            generator.writeNull();
+            return;
+        }
+        switch (field.kind) {
+            case COLLECTION:
+            case ARRAY:
+                Collection<Object> elements = ConfigurableModelMapper.asCollection(value);
+                if (elements == null) {
+                    generator.writeObject(value);
+                    return;
+                }
+                generator.writeStartArray();
+                for (Object element : elements) {
+                    writeElement(element, field.elementType);
+                }
+                generator.writeEndArray();
+                return;
+            case MAP:
+                generator.writeStartObject();
+                for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                    generator.writeFieldName(String.valueOf(entry.getKey()));
+                    writeElement(entry.getValue(), field.elementType);
+                }
+                generator.writeEndObject();
+                return;
+            default:
+                writeElement(value, field.elementType);
+        }
+    }
+
+    private void writeElement(Object value, Class<?> targetType) throws Exception {
+        if (value == null) {
+            generator.writeNull();
+            return;
+        }
+        if (targetType != null && mapper.isCustomObject(value)) {
+            CompiledMapping nested = mapper.findCompiledMapping(value.getClass(), targetType);
+            if (nested != null) {
+                writeObject(value, nested);
+            } else {
+                generator.writeObject(mapper.map(value, targetType));
+            }
+            return;
+        }
+        value = ConfigurableModelMapper.convertEnum(value, targetType);
+        if (value instanceof String) {
+            generator.writeString((String) value);
+        } else if (value instanceof Enum) {
+            generator.writeString(((Enum<?>) value).name());
+        } else if (value instanceof Integer) {
+            generator.writeNumber((Integer) value);
+        } else if (value instanceof Long) {
+            generator.writeNumber((Long) value);
+        } else if (value instanceof Boolean) {
+            generator.writeBoolean((Boolean) value);
+        } else {
+            generator.writeObject(value);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example;
+
+import java.util.Collection;
+
+/**
+ * Streams mapped records straight to an output sink, without building target objects.
+ * Obtain one from {@link ConfigurableModelMapper#jsonWriter} or {@link ConfigurableModelMapper#csvWriter}.
+ */
+public interface RecordWriter extends AutoCloseable {
+
+    void write(Object source) throws MappingException;
+
+    default void writeAll(Collection<?> sources) throws MappingException {
+        for (Object source : sources) {
+            write(source);
+        }
+    }
+
+    /**
+     * Flushes buffered output and closes the underlying stream.
+     */
+    @Override
+    void close() throws MappingException;
+}
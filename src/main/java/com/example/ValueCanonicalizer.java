@@ -0,0 +1,42 @@
+package com.example;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Size-bounded cache that maps equal immutable values onto one shared instance, so repeated values
+ * (city names, status codes) copied during bulk mapping do not each keep their own copy alive.
+ * <p>
+ * The cache is a direct-mapped table: a value's hash selects one slot, a hit returns the instance in
+ * that slot and a miss overwrites it. Lookups and evictions are single atomic reads and writes, so
+ * there is no lock to contend on and the footprint never exceeds the configured capacity.
+ */
+final class ValueCanonicalizer {
+
+    static final int MAX_CAPACITY = 1 << 30;
+
+    private final AtomicReferenceArray<Object> slots;
+    private final int mask;
+
+    /**
+     * Rounds {@code capacity} (at least 1) up to a power of two, capped at {@link #MAX_CAPACITY}.
+     */
+    ValueCanonicalizer(int capacity) {
+        int size = capacity >= MAX_CAPACITY ? MAX_CAPACITY : Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    Object canonicalize(Object value) {
+        if (value == null) {
+            return null;
+        }
+        int h = value.hashCode();
+        int index = (h ^ (h >>> 16)) & mask;
+        Object cached = slots.get(index);
+        if (cached != null && cached.equals(value)) {
+            return cached;
+        }
+        slots.lazySet(index, value);
+        return value;
+    }
+}
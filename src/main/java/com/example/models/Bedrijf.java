@@ -0,0 +1,64 @@
+package com.example.models;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+public class Bedrijf {
+    private String naam;
+    private List<Adres> adressen;
+    private Persoon[] medewerkers;
+    private Map<String, Adres> vestigingen;
+
+    public Bedrijf() {
+    }
+
+    public Bedrijf(String naam, List<Adres> adressen, Persoon[] medewerkers, Map<String, Adres> vestigingen) {
+        this.naam = naam;
+        this.adressen = adressen;
+        this.medewerkers = medewerkers;
+        this.vestigingen = vestigingen;
+    }
+
+    public String getNaam() {
+        return naam;
+    }
+
+    public List<Adres> getAdressen() {
+        return adressen;
+    }
+
+    public Persoon[] getMedewerkers() {
+        return medewerkers;
+    }
+
+    public Map<String, Adres> getVestigingen() {
+        return vestigingen;
+    }
+
+    public void setNaam(String naam) {
+        this.naam = naam;
+    }
+
+    public void setAdressen(List<Adres> adressen) {
+        this.adressen = adressen;
+    }
+
+    public void setMedewerkers(Persoon[] medewerkers) {
+        this.medewerkers = medewerkers;
+    }
+
+    public void setVestigingen(Map<String, Adres> vestigingen) {
+        this.vestigingen = vestigingen;
+    }
+
+    @Override
+    public String toString() {
+        return "Bedrijf{" +
+                "naam='" + naam + '\'' +
+                ", adressen=" + adressen +
+                ", medewerkers=" + Arrays.toString(medewerkers) +
+                ", vestigingen=" + vestigingen +
+                '}';
+    }
+}
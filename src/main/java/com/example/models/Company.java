@@ -0,0 +1,64 @@
+package com.example.models;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+public class Company {
+    private String name;
+    private List<Address> addresses;
+    private Person[] employees;
+    private Map<String, Address> branches;
+
+    public Company() {
+    }
+
+    public Company(String name, List<Address> addresses, Person[] employees, Map<String, Address> branches) {
+        this.name = name;
+        this.addresses = addresses;
+        this.employees = employees;
+        this.branches = branches;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<Address> getAddresses() {
+        return addresses;
+    }
+
+    public Person[] getEmployees() {
+        return employees;
+    }
+
+    public Map<String, Address> getBranches() {
+        return branches;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public void setAddresses(List<Address> addresses) {
+        this.addresses = addresses;
+    }
+
+    public void setEmployees(Person[] employees) {
+        this.employees = employees;
+    }
+
+    public void setBranches(Map<String, Address> branches) {
+        this.branches = branches;
+    }
+
+    @Override
+    public String toString() {
+        return "Company{" +
+                "name='" + name + '\'' +
+                ", addresses=" + addresses +
+                ", employees=" + Arrays.toString(employees) +
+                ", branches=" + branches +
+                '}';
+    }
+}
@@ -5,6 +5,9 @@ public class Source {
     private String name;
     private Status status;
 
+    public Source() {
+    }
+
     public Source(int id, String name, Status status) {
         this.id = id;
         this.name = name;
@@ -0,0 +1,140 @@
+package com.example;
+
+import com.example.models.Person;
+import com.example.models.Persoon;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchApplicationTest {
+
+    private final Path WORK_DIR = Paths.get("target/test-classes/batch");
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tearDown();
+        Files.createDirectories(WORK_DIR);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (Files.exists(WORK_DIR)) {
+            try (Stream<Path> paths = Files.walk(WORK_DIR)) {
+                for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                    Files.delete(path);
+                }
+            }
+        }
+    }
+
+    private Path createInput(int records) throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < records; i++) {
+            lines.add("{\"firstName\":\"First" + i + "\",\"lastName\":\"Last" + i + "\"," +
+                    "\"address\":{\"street\":\"Street " + i + "\",\"city\":\"City" + i + "\"}}");
+        }
+        Path input = WORK_DIR.resolve("persons.ndjson");
+        Files.write(input, lines);
+        return input;
+    }
+
+    @Test
+    @DisplayName("Should map all records into one output file in input order")
+    void shouldMapRecordsIntoOrderedOutputFile() throws Exception {
+        ConfigurableModelMapper mapper = new ConfigurableModelMapper("config.json");
+        Path input = createInput(1000);
+        Path output = WORK_DIR.resolve("personen.ndjson");
+
+        long records = BatchApplication.run(mapper, Person.class, Persoon.class, input, output, 4);
+
+        List<String> lines = Files.readAllLines(output);
+        assertEquals(1000, records);
+        assertEquals(1000, lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            assertEquals("{\"voornaam\":\"First" + i + "\",\"achternaam\":\"Last" + i + "\"," +
+                    "\"adres\":{\"straat\":\"Street " + i + "\",\"stad\":\"City" + i + "\"}}", lines.get(i));
+        }
+        try (Stream<Path> files = Files.list(WORK_DIR)) {
+            assertEquals(2, files.count());
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep one output file per chunk when output is a directory")
+    void shouldWriteOneFilePerChunk_whenOutputIsDirectory() throws Exception {
+        ConfigurableModelMapper mapper = new ConfigurableModelMapper("config.json");
+        Path input = createInput(100);
+        Path output = Files.createDirectories(WORK_DIR.resolve("parts"));
+
+        long records = BatchApplication.run(mapper, Person.class, Persoon.class, input, output, 3);
+
+        List<String> lines = new ArrayList<>();
+        try (Stream<Path> parts = Files.list(output)) {
+            for (Path part : parts.sorted().collect(Collectors.toList())) {
+                lines.addAll(Files.readAllLines(part));
+            }
+        }
+        assertEquals(100, records);
+        assertEquals(100, lines.size());
+        assertTrue(lines.get(99).startsWith("{\"voornaam\":\"First99\""));
+    }
+
+    @Test
+    @DisplayName("Should remove part files when a chunk fails to map")
+    void shouldRemovePartFiles_whenChunkFails() throws Exception {
+        ConfigurableModelMapper mapper = new ConfigurableModelMapper("config.json");
+        Path input = createInput(100);
+        List<String> lines = Files.readAllLines(input);
+        lines.set(90, "{\"unknownField\":true}");
+        Files.write(input, lines);
+        Path output = WORK_DIR.resolve("personen.ndjson");
+
+        assertThrows(MappingException.class, () -> {
+            BatchApplication.run(mapper, Person.class, Persoon.class, input, output, 4);
+        });
+
+        try (Stream<Path> files = Files.list(WORK_DIR)) {
+            assertEquals(Collections.singletonList(input), files.collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    @DisplayName("Should fail before splitting the input when the pair is not configured")
+    void shouldFailFast_whenPairIsNotConfigured() throws Exception {
+        ConfigurableModelMapper mapper = new ConfigurableModelMapper("config.json");
+        Path input = WORK_DIR.resolve("missing.ndjson");
+        Path output = WORK_DIR.resolve("personen.ndjson");
+
+        MappingException exception = assertThrows(MappingException.class, () -> {
+            BatchApplication.run(mapper, Persoon.class, Person.class, input, output, 4);
+        });
+
+        assertTrue(exception.getMessage().contains("No mapping configured"));
+    }
+
+    @Test
+    @DisplayName("Should reject a thread count below one")
+    void shouldRejectNonPositiveThreadCount() throws Exception {
+        ConfigurableModelMapper mapper = new ConfigurableModelMapper("config.json");
+        Path input = WORK_DIR.resolve("missing.ndjson");
+        Path output = WORK_DIR.resolve("personen.ndjson");
+
+        assertThrows(IllegalArgumentException.class, () -> {
+            BatchApplication.run(mapper, Person.class, Persoon.class, input, output, 0);
+        });
+    }
+}
@@ -2,16 +2,32 @@ package com.example;
 
 import com.example.models.Address;
 import com.example.models.Adres;
+import com.example.models.Bedrijf;
+import com.example.models.Company;
 import com.example.models.Person;
 import com.example.models.Persoon;
+import com.example.models.Source;
+import com.example.models.Status;
+import com.example.models.Target;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -19,6 +35,20 @@ class ConfigurableModelMapperTest {
 
     private final String CONFIG_PATH = "target/test-classes/test-config.json";
 
+    static class Shipment {
+        private Queue<Address> stops;
+        private PriorityQueue<String> tags;
+        private EnumSet<Status> statuses;
+        private Object[] items;
+    }
+
+    static class Zending {
+        private Queue<Adres> haltes;
+        private PriorityQueue<String> labels;
+        private EnumSet<Status> statussen;
+        private Object[] artikelen;
+    }
+
     @BeforeEach
     void setUp() throws IOException {
         Files.createDirectories(Paths.get(CONFIG_PATH).getParent());
@@ -33,6 +63,42 @@ class ConfigurableModelMapperTest {
         Files.write(Paths.get(CONFIG_PATH), content.getBytes());
     }
 
+    private void createCompanyConfigFile() throws IOException {
+        String config = "{\n" +
+                "  \"mappablePackages\": [\"com.example.models\"],\n" +
+                "  \"mappings\": [\n" +
+                "    {\n" +
+                "      \"sourceClass\": \"com.example.models.Person\",\n" +
+                "      \"targetClass\": \"com.example.models.Persoon\",\n" +
+                "      \"fields\": {\n" +
+                "        \"firstName\": \"voornaam\",\n" +
+                "        \"lastName\": \"achternaam\",\n" +
+                "        \"address\": \"adres\"\n" +
+                "      }\n" +
+                "    },\n" +
+                "    {\n" +
+                "      \"sourceClass\": \"com.example.models.Address\",\n" +
+                "      \"targetClass\": \"com.example.models.Adres\",\n" +
+                "      \"fields\": {\n" +
+                "        \"street\": \"straat\",\n" +
+                "        \"city\": \"stad\"\n" +
+                "      }\n" +
+                "    },\n" +
+                "    {\n" +
+                "      \"sourceClass\": \"com.example.models.Company\",\n" +
+                "      \"targetClass\": \"com.example.models.Bedrijf\",\n" +
+                "      \"fields\": {\n" +
+                "        \"name\": \"naam\",\n" +
+                "        \"addresses\": \"adressen\",\n" +
+                "        \"employees\": \"medewerkers\",\n" +
+                "        \"branches\": \"vestigingen\"\n" +
+                "      }\n" +
+                "    }\n" +
+                "  ]\n" +
+                "}";
+        createConfigFile(config);
+    }
+
     @Test
     @DisplayName("Should map single object when config is valid")
     void shouldMapSingleObject_whenConfigIsValid() throws IOException, ConfigurationException, MappingException {
@@ -108,4 +174,294 @@ class ConfigurableModelMapperTest {
         assertTrue(exception.getCause() instanceof FieldNotFoundException);
         assertTrue(exception.getMessage().contains("Field 'invalidField' not found"));
     }
+
+    @Test
+    @DisplayName("Should fall back to ModelMapper for pairs not in config")
+    void shouldFallBackToModelMapper_forUnconfiguredPair() throws IOException, ConfigurationException, MappingException {
+        String config = "{\n" +
+                "  \"mappablePackages\": [\"com.example.models\"],\n" +
+                "  \"mappings\": [\n" +
+                "    {\n" +
+                "      \"sourceClass\": \"com.example.models.Address\",\n" +
+                "      \"targetClass\": \"com.example.models.Adres\",\n" +
+                "      \"fields\": {\n" +
+                "        \"street\": \"straat\",\n" +
+                "        \"city\": \"stad\"\n" +
+                "      }\n" +
+                "    }\n" +
+                "  ]\n" +
+                "}";
+        createConfigFile(config);
+
+        ConfigurableModelMapper mapper = new ConfigurableModelMapper(CONFIG_PATH);
+
+        Adres adres = mapper.map(new Address("Main St", "Anytown"), Adres.class);
+        Target target = mapper.map(new Source(42, "Widget", Status.ACTIVE), Target.class);
+
+        assertEquals("Main St", adres.getStraat());
+        assertEquals("Anytown", adres.getStad());
+        assertEquals(42, target.getId());
+        assertEquals("Widget", target.getName());
+        assertEquals("ACTIVE", target.getStatus());
+    }
+
+    @Test
+    @DisplayName("Should map collection, array and map fields element by element")
+    void shouldMapContainerFieldsElementWise() throws IOException, ConfigurationException, MappingException {
+        createCompanyConfigFile();
+        ConfigurableModelMapper mapper = new ConfigurableModelMapper(CONFIG_PATH);
+
+        List<Address> addresses = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            addresses.add(new Address("Street " + i, "City " + i));
+        }
+        Person[] employees = {
+                new Person("Jan", "Jansen", new Address("Main St", "Anytown")),
+                new Person("Piet", "Pietersen", null)
+        };
+        Map<String, Address> branches = new LinkedHashMap<>();
+        branches.put("north", new Address("North St", "Northtown"));
+        branches.put("south", new Address("South St", "Southtown"));
+
+        Bedrijf small = mapper.map(new Company("Small", addresses.subList(0, 2), employees, branches), Bedrijf.class);
+        Bedrijf large = mapper.map(new Company("Large", addresses, null, null), Bedrijf.class);
+
+        assertEquals("Small", small.getNaam());
+        assertEquals(2, small.getAdressen().size());
+        assertEquals("Street 1", small.getAdressen().get(1).getStraat());
+        assertEquals(2, small.getMedewerkers().length);
+        assertEquals("Anytown", small.getMedewerkers()[0].getAdres().getStad());
+        assertNull(small.getMedewerkers()[1].getAdres());
+        assertEquals(Arrays.asList("north", "south"), new ArrayList<>(small.getVestigingen().keySet()));
+        assertEquals("Southtown", small.getVestigingen().get("south").getStad());
+
+        assertEquals(100, large.getAdressen().size());
+        assertEquals("City 99", large.getAdressen().get(99).getStad());
+        assertNull(large.getMedewerkers());
+        assertNull(large.getVestigingen());
+    }
+
+    private ConfigurableModelMapper createShipmentMapper() throws IOException, ConfigurationException {
+        String config = "{\n" +
+                "  \"mappablePackages\": [\"com.example.models\"],\n" +
+                "  \"mappings\": [\n" +
+                "    {\n" +
+                "      \"sourceClass\": \"com.example.ConfigurableModelMapperTest$Shipment\",\n" +
+                "      \"targetClass\": \"com.example.ConfigurableModelMapperTest$Zending\",\n" +
+                "      \"fields\": {\n" +
+                "        \"stops\": \"haltes\",\n" +
+                "        \"tags\": \"labels\",\n" +
+                "        \"statuses\": \"statussen\",\n" +
+                "        \"items\": \"artikelen\"\n" +
+                "      }\n" +
+                "    },\n" +
+                "    {\n" +
+                "      \"sourceClass\": \"com.example.models.Address\",\n" +
+                "      \"targetClass\": \"com.example.models.Adres\",\n" +
+                "      \"fields\": {\n" +
+                "        \"street\": \"straat\",\n" +
+                "        \"city\": \"stad\"\n" +
+                "      }\n" +
+                "    }\n" +
+                "  ]\n" +
+                "}";
+        createConfigFile(config);
+        return new ConfigurableModelMapper(CONFIG_PATH);
+    }
+
+    @Test
+    @DisplayName("Should map a collection containing null and copy unmapped containers by reference")
+    void shouldMapNullElements_andCopyUnmappedContainersByReference() throws IOException, ConfigurationException, MappingException {
+        ConfigurableModelMapper mapper = createShipmentMapper();
+        Shipment shipment = new Shipment();
+        shipment.stops = new LinkedList<>(Arrays.asList(new Address("Main St", "Anytown"), null));
+        shipment.tags = new PriorityQueue<>(Arrays.asList("b", "a"));
+        shipment.statuses = EnumSet.of(Status.ACTIVE);
+        shipment.items = new Object[]{new Address("Second St", "Othertown")};
+
+        Zending zending = mapper.map(shipment, Zending.class);
+
+        assertEquals(2, zending.haltes.size());
+        assertEquals("Anytown", zending.haltes.peek().getStad());
+        assertNull(new ArrayList<>(zending.haltes).get(1));
+        assertSame(shipment.tags, zending.labels);
+        assertSame(shipment.statuses, zending.statussen);
+        assertSame(shipment.items, zending.artikelen);
+    }
+
+    @Test
+    @DisplayName("Should map empty collections")
+    void shouldMapEmptyCollections() throws IOException, ConfigurationException, MappingException {
+        ConfigurableModelMapper mapper = createShipmentMapper();
+        Shipment shipment = new Shipment();
+        shipment.stops = new LinkedList<>();
+        shipment.tags = new PriorityQueue<>();
+
+        Zending zending = mapper.map(shipment, Zending.class);
+
+        assertTrue(zending.haltes.isEmpty());
+        assertNotSame(shipment.stops, zending.haltes);
+        assertTrue(zending.labels.isEmpty());
+        assertNull(zending.statussen);
+    }
+
+    @Test
+    @DisplayName("Should stream mapped records as JSON lines")
+    void shouldWriteMappedRecordsAsJson() throws IOException, ConfigurationException, MappingException {
+        createCompanyConfigFile();
+        ConfigurableModelMapper mapper = new ConfigurableModelMapper(CONFIG_PATH);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (RecordWriter writer = mapper.jsonWriter(Company.class, Bedrijf.class, out)) {
+            Map<String, Address> branches = new LinkedHashMap<>();
+            branches.put("north", new Address("North St", "Northtown"));
+            writer.write(new Company("Acme", Arrays.asList(new Address("Main St", "Anytown")),
+                    new Person[]{new Person("Jan", "Jansen", null)}, branches));
+            writer.write(new Company("Empty", null, null, null));
+        }
+
+        assertEquals("{\"naam\":\"Acme\",\"adressen\":[{\"straat\":\"Main St\",\"stad\":\"Anytown\"}]," +
+                        "\"medewerkers\":[{\"voornaam\":\"Jan\",\"achternaam\":\"Jansen\",\"adres\":null}]," +
+                        "\"vestigingen\":{\"north\":{\"straat\":\"North St\",\"stad\":\"Northtown\"}}}\n" +
+                        "{\"naam\":\"Empty\",\"adressen\":null,\"medewerkers\":null,\"vestigingen\":null}\n",
+                new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Should stream mapped records as CSV with flattened nested columns")
+    void shouldWriteMappedRecordsAsCsv() throws IOException, ConfigurationException, MappingException {
+        createCompanyConfigFile();
+        ConfigurableModelMapper mapper = new ConfigurableModelMapper(CONFIG_PATH);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (RecordWriter writer = mapper.csvWriter(Person.class, Persoon.class, out)) {
+            writer.writeAll(Arrays.asList(
+                    new Person("Jan", "Jansen", new Address("Main St, 1", "Anytown")),
+                    new Person("Piet", "\"PJ\"", null)));
+        }
+
+        assertEquals("voornaam,achternaam,adres.straat,adres.stad\n" +
+                        "Jan,Jansen,\"Main St, 1\",Anytown\n" +
+                        "Piet,\"\"\"PJ\"\"\",,\n",
+                new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Should convert enum values the same way in JSON and CSV writers and drop failed records")
+    void shouldConvertEnumValuesConsistently_inJsonAndCsvWriters() throws IOException, ConfigurationException, MappingException {
+        String config = "{\n" +
+                "  \"mappablePackages\": [\"com.example.models\"],\n" +
+                "  \"mappings\": [\n" +
+                "    {\n" +
+                "      \"sourceClass\": \"com.example.models.Target\",\n" +
+                "      \"targetClass\": \"com.example.models.Source\",\n" +
+                "      \"fields\": {\n" +
+                "        \"id\": \"id\",\n" +
+                "        \"status\": \"status\"\n" +
+                "      }\n" +
+                "    }\n" +
+                "  ]\n" +
+                "}";
+        createConfigFile(config);
+        ConfigurableModelMapper mapper = new ConfigurableModelMapper(CONFIG_PATH);
+
+        Target valid = new Target();
+        valid.setId(1);
+        valid.setStatus("ACTIVE");
+        Target invalid = new Target();
+        invalid.setId(2);
+        invalid.setStatus("UNKNOWN");
+        Target next = new Target();
+        next.setId(3);
+        next.setStatus("PENDING");
+
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        try (RecordWriter jsonWriter = mapper.jsonWriter(Target.class, Source.class, json);
+             RecordWriter csvWriter = mapper.csvWriter(Target.class, Source.class, csv)) {
+            jsonWriter.write(valid);
+            csvWriter.write(valid);
+            assertThrows(MappingException.class, () -> jsonWriter.write(invalid));
+            assertThrows(MappingException.class, () -> csvWriter.write(invalid));
+            jsonWriter.write(next);
+            csvWriter.write(next);
+        }
+
+        assertEquals("{\"id\":1,\"status\":\"ACTIVE\"}\n{\"id\":3,\"status\":\"PENDING\"}\n",
+                new String(json.toByteArray(), StandardCharsets.UTF_8));
+        assertEquals("id,status\n1,ACTIVE\n3,PENDING\n",
+                new String(csv.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Should share one instance for equal values of canonical fields")
+    void shouldCanonicalizeConfiguredFields() throws IOException, ConfigurationException, MappingException {
+        String config = "{\n" +
+                "  \"mappablePackages\": [\"com.example.models\"],\n" +
+                "  \"canonicalCacheSize\": 16,\n" +
+                "  \"mappings\": [\n" +
+                "    {\n" +
+                "      \"sourceClass\": \"com.example.models.Address\",\n" +
+                "      \"targetClass\": \"com.example.models.Adres\",\n" +
+                "      \"fields\": {\n" +
+                "        \"street\": \"straat\",\n" +
+                "        \"city\": \"stad\"\n" +
+                "      },\n" +
+                "      \"canonicalFields\": [\"stad\"]\n" +
+                "    }\n" +
+                "  ]\n" +
+                "}";
+        createConfigFile(config);
+
+        ConfigurableModelMapper mapper = new ConfigurableModelMapper(CONFIG_PATH);
+        List<Adres> result = mapper.map(Arrays.asList(
+                new Address(new String("Main St"), new String("Anytown")),
+                new Address(new String("Main St"), new String("Anytown"))), Adres.class);
+
+        assertSame(result.get(0).getStad(), result.get(1).getStad());
+        assertNotSame(result.get(0).getStraat(), result.get(1).getStraat());
+    }
+
+    @Test
+    @DisplayName("Should throw ConfigurationException for canonical field that is not mapped")
+    void shouldThrowConfigurationException_forUnmappedCanonicalField() throws IOException {
+        String config = "{\n" +
+                "  \"mappablePackages\": [\"com.example.models\"],\n" +
+                "  \"mappings\": [\n" +
+                "    {\n" +
+                "      \"sourceClass\": \"com.example.models.Address\",\n" +
+                "      \"targetClass\": \"com.example.models.Adres\",\n" +
+                "      \"fields\": {\n" +
+                "        \"street\": \"straat\"\n" +
+                "      },\n" +
+                "      \"canonicalFields\": [\"stad\"]\n" +
+                "    }\n" +
+                "  ]\n" +
+                "}";
+        createConfigFile(config);
+
+        ConfigurationException exception = assertThrows(ConfigurationException.class, () -> {
+            new ConfigurableModelMapper(CONFIG_PATH);
+        });
+
+        assertTrue(exception.getMessage().contains("Canonical field 'stad' is not a mapped target field"));
+    }
+
+    @Test
+    @DisplayName("Should throw ConfigurationException for non-positive or non-integer canonical cache size")
+    void shouldThrowConfigurationException_forInvalidCanonicalCacheSize() throws IOException {
+        for (String size : new String[]{"0", "-5", "1.5", "\"large\""}) {
+            createConfigFile("{\n" +
+                    "  \"mappablePackages\": [\"com.example.models\"],\n" +
+                    "  \"canonicalCacheSize\": " + size + ",\n" +
+                    "  \"mappings\": []\n" +
+                    "}");
+
+            ConfigurationException exception = assertThrows(ConfigurationException.class, () -> {
+                new ConfigurableModelMapper(CONFIG_PATH);
+            });
+
+            assertTrue(exception.getMessage().contains("canonicalCacheSize must be a positive integer"));
+        }
+    }
 }
@@ -0,0 +1,135 @@
+package com.example;
+
+import com.example.models.Address;
+import com.example.models.Adres;
+import com.example.models.Bedrijf;
+import com.example.models.Company;
+import com.example.models.Person;
+import com.example.models.Persoon;
+import com.example.models.Source;
+import com.example.models.Target;
+import com.sun.management.HotSpotDiagnosticMXBean;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Guards the mapping hot path against allocation regressions (an added boxing step, a per-call lambda).
+ * Each scenario is warmed up, then the bytes allocated by the current thread are averaged over many
+ * calls, the lowest of several rounds is taken and compared to a checked-in budget: the measured value
+ * plus a small fixed slack, so any new per-call allocation fails the suite.
+ */
+class MappingAllocationTest {
+
+    private static final int WARMUP_ITERATIONS = 20_000;
+    private static final int MEASURED_ITERATIONS = 10_000;
+    private static final int MEASURED_ROUNDS = 5;
+
+    /** Headroom over the measured allocation for JVM differences; any larger per-call growth fails. */
+    private static final long SLACK = 32;
+
+    // Bytes per map call, measured on JDK 17 with compressed oops; re-measure and lower these when the hot path gets leaner.
+    /** Adres with two String fields copied. */
+    private static final long FLAT_BUDGET = 40 + SLACK;
+    /** Persoon plus nested Adres. */
+    private static final long NESTED_BUDGET = 80 + SLACK;
+    /** Source with a boxed int and a String converted to Status. */
+    private static final long ENUM_BUDGET = 40 + SLACK;
+    /** Bedrijf with a two-element list, a one-element array and a one-entry map. */
+    private static final long COLLECTION_BUDGET = 504 + SLACK;
+
+    private static com.sun.management.ThreadMXBean threadBean;
+    private static ConfigurableModelMapper mapper;
+
+    private Object sink;
+
+    @FunctionalInterface
+    private interface MappingCall {
+        Object run() throws MappingException;
+    }
+
+    @BeforeAll
+    static void setUp() throws ConfigurationException {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean, "Thread allocation counters not available");
+        threadBean = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threadBean.isThreadAllocatedMemorySupported(), "Thread allocation counters not supported");
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+
+        // Budgets assume compressed references; without them (e.g. heaps of 32 GB and up) every
+        // reference field is twice as wide and the measured sizes no longer apply.
+        HotSpotDiagnosticMXBean diagnosticBean = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+        assumeTrue(diagnosticBean != null, "HotSpot diagnostics not available");
+        assumeTrue(Boolean.parseBoolean(diagnosticBean.getVMOption("UseCompressedOops").getValue()),
+                "Allocation budgets assume compressed oops");
+
+        mapper = new ConfigurableModelMapper("allocation-config.json");
+    }
+
+    @Test
+    @DisplayName("Flat mapping stays within its allocation budget")
+    void flatMappingStaysWithinBudget() throws MappingException {
+        Address address = new Address("Main St", "Anytown");
+        assertWithinBudget("flat", FLAT_BUDGET, () -> mapper.map(address, Adres.class));
+    }
+
+    @Test
+    @DisplayName("Nested mapping stays within its allocation budget")
+    void nestedMappingStaysWithinBudget() throws MappingException {
+        Person person = new Person("Jan", "Jansen", new Address("Main St", "Anytown"));
+        assertWithinBudget("nested", NESTED_BUDGET, () -> mapper.map(person, Persoon.class));
+    }
+
+    @Test
+    @DisplayName("Enum conversion stays within its allocation budget")
+    void enumMappingStaysWithinBudget() throws MappingException {
+        Target target = new Target();
+        target.setId(42);
+        target.setName("Widget");
+        target.setStatus("ACTIVE");
+        assertWithinBudget("enum", ENUM_BUDGET, () -> mapper.map(target, Source.class));
+    }
+
+    @Test
+    @DisplayName("Collection mapping stays within its allocation budget")
+    void collectionMappingStaysWithinBudget() throws MappingException {
+        Map<String, Address> branches = new LinkedHashMap<>();
+        branches.put("north", new Address("North St", "Northtown"));
+        Company company = new Company("Acme",
+                Arrays.asList(new Address("Main St", "Anytown"), new Address("Second St", "Othertown")),
+                new Person[]{new Person("Jan", "Jansen", null)},
+                branches);
+        assertWithinBudget("collection", COLLECTION_BUDGET, () -> mapper.map(company, Bedrijf.class));
+    }
+
+    private void assertWithinBudget(String scenario, long budget, MappingCall call) throws MappingException {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            sink = call.run();
+        }
+
+        // The minimum over several rounds filters out JIT noise (a round that runs before a recompile)
+        // without letting a real per-call allocation hide: that shows up in every round.
+        long threadId = Thread.currentThread().getId();
+        long bytesPerCall = Long.MAX_VALUE;
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            long before = threadBean.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+                sink = call.run();
+            }
+            long after = threadBean.getThreadAllocatedBytes(threadId);
+            bytesPerCall = Math.min(bytesPerCall, (after - before) / MEASURED_ITERATIONS);
+        }
+
+        assertNotNull(sink);
+        assertTrue(bytesPerCall <= budget,
+                "Scenario '" + scenario + "' allocated " + bytesPerCall + " bytes per map call, budget is " + budget);
+    }
+}